@@ -0,0 +1,82 @@
+import java.util.Arrays;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Data-parallel candidate computation for CandidateBatch. Each lane
+ * holds one puzzle, and for every cell the kernel sweeps the whole
+ * batch a vector at a time, the same loop order as the scalar path.
+ * Kept in its own source root, since it needs --add-modules
+ * jdk.incubator.vector to compile; CandidateBatch loads it by name
+ * when it is on the class path.
+ *
+ * @author pilgrim_tabby
+ * @version 0.0.1
+ */
+final class VectorCandidates implements CandidateKernel {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    /**
+     * Fill the occupancy and candidate masks of a batch. Puzzles left
+     * over after the last full vector go through the scalar loops.
+     * @param batch The batch to compute.
+     */
+    @Override
+    public void compute(CandidateBatch batch) {
+        int n = batch.size;
+        int[] values = batch.values;
+        int[] rowMasks = batch.rowMasks;
+        int[] colMasks = batch.colMasks;
+        int[] boxMasks = batch.boxMasks;
+        int[] candidates = batch.candidates;
+        IntVector zero = IntVector.zero(SPECIES);
+        IntVector one = IntVector.broadcast(SPECIES, 1);
+        int bound = SPECIES.loopBound(n);
+        int step = SPECIES.length();
+
+        for (int i = 0; i <= 8; i++) {
+            Arrays.fill(rowMasks, i * n, i * n + bound, 0);
+            Arrays.fill(colMasks, i * n, i * n + bound, 0);
+            Arrays.fill(boxMasks, i * n, i * n + bound, 0);
+        }
+
+        // Like Square, ignore blanks and values outside 1-9
+        for (int row = 0; row <= 8; row++) {
+            for (int col = 0; col <= 8; col++) {
+                int cell = (row * 9 + col) * n;
+                int rowBase = row * n;
+                int colBase = col * n;
+                int boxBase = (row / 3 * 3 + col / 3) * n;
+                for (int p = 0; p < bound; p += step) {
+                    IntVector value = IntVector.fromArray(SPECIES, values, cell + p);
+                    VectorMask<Integer> digit = value.compare(VectorOperators.GE, 1)
+                            .and(value.compare(VectorOperators.LE, 9));
+                    IntVector bit = zero.blend(one.lanewise(VectorOperators.LSHL, value), digit);
+                    IntVector.fromArray(SPECIES, rowMasks, rowBase + p).or(bit).intoArray(rowMasks, rowBase + p);
+                    IntVector.fromArray(SPECIES, colMasks, colBase + p).or(bit).intoArray(colMasks, colBase + p);
+                    IntVector.fromArray(SPECIES, boxMasks, boxBase + p).or(bit).intoArray(boxMasks, boxBase + p);
+                }
+            }
+        }
+
+        for (int row = 0; row <= 8; row++) {
+            for (int col = 0; col <= 8; col++) {
+                int cell = (row * 9 + col) * n;
+                int rowBase = row * n;
+                int colBase = col * n;
+                int boxBase = (row / 3 * 3 + col / 3) * n;
+                for (int p = 0; p < bound; p += step) {
+                    IntVector used = IntVector.fromArray(SPECIES, rowMasks, rowBase + p)
+                            .or(IntVector.fromArray(SPECIES, colMasks, colBase + p))
+                            .or(IntVector.fromArray(SPECIES, boxMasks, boxBase + p));
+                    used.not().and(CandidateBatch.DIGITS).intoArray(candidates, cell + p);
+                }
+            }
+        }
+
+        batch.computeScalar(bound);
+    }
+}
@@ -0,0 +1,230 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Compute the starting possible solutions for a block of sudoku grids
+ * at once. Values are stored struct-of-arrays (one run of puzzles per
+ * cell) so the same cell of every puzzle sits side by side in memory,
+ * which lets VectorCandidates process many puzzles per instruction.
+ * Occupancy and candidate masks use bits 1 to 9 for digits 1 to 9.
+ *
+ * @author pilgrim_tabby
+ * @version 0.0.1
+ */
+public class CandidateBatch {
+    /** Bits 1 to 9 set; bit 0 (blank squares) is always cleared. */
+    static final int DIGITS = 0x3FE;
+    /** VectorCandidates if it could be loaded and isn't disabled, else null. */
+    private static final CandidateKernel VECTOR_KERNEL = loadVectorKernel();
+
+    /** Number of puzzles in the batch. */
+    final int size;
+    /** Square values, indexed [(row * 9 + col) * size + puzzle]. */
+    final int[] values;
+    /** Digits used in each row, indexed [row * size + puzzle]. */
+    final int[] rowMasks;
+    /** Digits used in each column, indexed [col * size + puzzle]. */
+    final int[] colMasks;
+    /** Digits used in each 3 x 3 box, indexed [box * size + puzzle]. */
+    final int[] boxMasks;
+    /** Possible solutions, indexed like this.values. */
+    final int[] candidates;
+    /** True once the masks have been filled. */
+    private boolean computed;
+
+    /**
+     * Construct a batch from 9 x 9 integer nested arrays. Candidates
+     * are computed by compute(), or on first use if it wasn't called.
+     * @param grids The grids, one per puzzle.
+     */
+    public CandidateBatch(int[][][] grids) {
+        this.size = grids.length;
+        this.values = new int[81 * this.size];
+        this.rowMasks = new int[9 * this.size];
+        this.colMasks = new int[9 * this.size];
+        this.boxMasks = new int[9 * this.size];
+        this.candidates = new int[81 * this.size];
+
+        // Transpose grids into struct-of-arrays layout
+        for (int puzzle = 0; puzzle < this.size; puzzle++) {
+            for (int row = 0; row <= 8; row++) {
+                for (int col = 0; col <= 8; col++) {
+                    this.values[(row * 9 + col) * this.size + puzzle] = grids[puzzle][row][col];
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if the data-parallel path will be used by compute().
+     * Requires VectorCandidates on the class path and running with
+     * --add-modules jdk.incubator.vector; can be turned off with
+     * -Dsudoku.vector=false.
+     * @return true if compute() uses the Vector API, false otherwise.
+     */
+    public static boolean vectorEnabled() {
+        return VECTOR_KERNEL != null;
+    }
+
+    /**
+     * Fill the occupancy and candidate masks, using the Vector API
+     * if it is available and the scalar loops otherwise.
+     */
+    public void compute() {
+        if (VECTOR_KERNEL != null) {
+            VECTOR_KERNEL.compute(this);
+        } else {
+            computeScalar(0);
+        }
+        this.computed = true;
+    }
+
+    /**
+     * Fill the occupancy and candidate masks without the Vector API.
+     */
+    public void computeScalar() {
+        computeScalar(0);
+        this.computed = true;
+    }
+
+    /**
+     * Getter method for the number of puzzles.
+     * @return number of puzzles in the batch.
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Getter method for a square's value.
+     * @param puzzle 0 to size - 1
+     * @param row 0 to 8
+     * @param col 0 to 8
+     * @return The value.
+     */
+    public int getValue(int puzzle, int row, int col) {
+        return this.values[(row * 9 + col) * this.size + puzzle];
+    }
+
+    /**
+     * Getter method for a square's candidate mask. Runs compute()
+     * first if the masks haven't been filled yet.
+     * @param puzzle 0 to size - 1
+     * @param row 0 to 8
+     * @param col 0 to 8
+     * @return mask with bit i set if i is a possible solution.
+     */
+    public int getCandidates(int puzzle, int row, int col) {
+        if (!this.computed) {
+            compute();
+        }
+        return this.candidates[(row * 9 + col) * this.size + puzzle];
+    }
+
+    /**
+     * Get a square's possible solutions in the same form Square uses.
+     * @param puzzle 0 to size - 1
+     * @param row 0 to 8
+     * @param col 0 to 8
+     * @return ArrayList of possible solutions, in ascending order.
+     */
+    public ArrayList<Integer> getPossible(int puzzle, int row, int col) {
+        return toPossible(getCandidates(puzzle, row, col));
+    }
+
+    /**
+     * Make boards for every puzzle in the batch, computing the
+     * candidates first if needed.
+     * @return The boards, in the same order as the grids.
+     */
+    public SudokuBoard[] toBoards() {
+        SudokuBoard[] boards = new SudokuBoard[this.size];
+        for (int puzzle = 0; puzzle < this.size; puzzle++) {
+            boards[puzzle] = new SudokuBoard(this, puzzle);
+        }
+        return boards;
+    }
+
+    /**
+     * Load VectorCandidates by name, so this class still compiles and
+     * runs on a JDK without the jdk.incubator.vector module.
+     * @return The vector kernel, or null if it can't be used.
+     */
+    private static CandidateKernel loadVectorKernel() {
+        if ("false".equals(System.getProperty("sudoku.vector"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            return (CandidateKernel) Class.forName("VectorCandidates")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Convert a candidate mask to a list of possible solutions.
+     * @param mask Mask with bit i set if i is a possible solution.
+     * @return ArrayList of possible solutions, in ascending order.
+     */
+    static ArrayList<Integer> toPossible(int mask) {
+        ArrayList<Integer> possible = new ArrayList<>(Integer.bitCount(mask));
+        for (int i = 1; i <= 9; i++) {
+            if ((mask & (1 << i)) != 0) {
+                possible.add(i);
+            }
+        }
+        return possible;
+    }
+
+    /**
+     * Scalar loops used by computeScalar() and for the tail of the
+     * batch that doesn't fill a whole vector. Like VectorCandidates,
+     * the puzzle loop is innermost so each pass walks the arrays in
+     * order.
+     * @param from The first puzzle to compute.
+     */
+    void computeScalar(int from) {
+        int n = this.size;
+        for (int i = 0; i <= 8; i++) {
+            Arrays.fill(this.rowMasks, i * n + from, (i + 1) * n, 0);
+            Arrays.fill(this.colMasks, i * n + from, (i + 1) * n, 0);
+            Arrays.fill(this.boxMasks, i * n + from, (i + 1) * n, 0);
+        }
+
+        // Like Square, ignore blanks and values outside 1-9
+        for (int row = 0; row <= 8; row++) {
+            for (int col = 0; col <= 8; col++) {
+                int cell = (row * 9 + col) * n;
+                int rowBase = row * n;
+                int colBase = col * n;
+                int boxBase = (row / 3 * 3 + col / 3) * n;
+                for (int puzzle = from; puzzle < n; puzzle++) {
+                    int value = this.values[cell + puzzle];
+                    // All ones if 1 <= value <= 9, else 0; no branch so C2 can vectorize
+                    int digit = ~(((value - 1) | (9 - value)) >> 31);
+                    int bit = (1 << value) & digit;
+                    this.rowMasks[rowBase + puzzle] |= bit;
+                    this.colMasks[colBase + puzzle] |= bit;
+                    this.boxMasks[boxBase + puzzle] |= bit;
+                }
+            }
+        }
+
+        for (int row = 0; row <= 8; row++) {
+            for (int col = 0; col <= 8; col++) {
+                int cell = (row * 9 + col) * n;
+                int rowBase = row * n;
+                int colBase = col * n;
+                int boxBase = (row / 3 * 3 + col / 3) * n;
+                for (int puzzle = from; puzzle < n; puzzle++) {
+                    int used = this.rowMasks[rowBase + puzzle]
+                            | this.colMasks[colBase + puzzle]
+                            | this.boxMasks[boxBase + puzzle];
+                    this.candidates[cell + puzzle] = ~used & DIGITS;
+                }
+            }
+        }
+    }
+}
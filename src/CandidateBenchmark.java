@@ -0,0 +1,202 @@
+import java.util.Random;
+
+/**
+ * Time loading a batch of puzzles into boards, first as a whole
+ * pipeline (one SudokuBoard per grid against CandidateBatch's layout,
+ * compute() and toBoards()), then just the candidate kernels. Run
+ * with --add-modules jdk.incubator.vector and src-vector/ on the class
+ * path to include the vector timings.
+ *
+ * @author pilgrim_tabby
+ * @version 0.0.1
+ */
+public class CandidateBenchmark {
+    private static final int PUZZLES = 4096;
+    private static final int BLANKS = 55;
+    /** Values Square ignores; includes ones a 5-bit shift maps to digits. */
+    private static final int[] OUT_OF_RANGE = {10, 33, -1, -31, 41, Integer.MIN_VALUE};
+    /** Puzzles handled while warming up, so small batches reach the JIT. */
+    private static final int WARMUP_PUZZLES = 500_000;
+    /** Puzzles handled while timing. */
+    private static final int RUN_PUZZLES = 250_000;
+    /** Keeps the JIT from discarding unused results. */
+    private static long sink;
+
+    /**
+     * Generate puzzles, check every path agrees, then print the
+     * average time per puzzle for each path.
+     */
+    public static void main(String[] args) {
+        int puzzles = args.length > 0 ? Integer.parseInt(args[0]) : PUZZLES;
+        int[][][] grids = makeGrids(puzzles, new Random(42));
+
+        // Odd count so the check covers full vectors and the scalar tail
+        if (!checkResults(grids) || !checkResults(makeOutOfRangeGrids(67, new Random(7)))) {
+            System.out.println("Candidate paths disagree");
+            System.exit(1);
+        }
+
+        System.out.printf("Puzzles per batch: %d\n", puzzles);
+        boolean vector = CandidateBatch.vectorEnabled();
+
+        // Grids to boards, including layout and list building
+        double boards = time(() -> runBoards(grids), puzzles);
+        System.out.printf("Pipeline, per-board:    %8.1f ns/puzzle\n", boards);
+        double scalarPipeline = time(() -> runBatch(grids, false), puzzles);
+        System.out.printf("Pipeline, batch scalar: %8.1f ns/puzzle (%.1fx)\n",
+                scalarPipeline, boards / scalarPipeline);
+        if (vector) {
+            double vectorPipeline = time(() -> runBatch(grids, true), puzzles);
+            System.out.printf("Pipeline, batch vector: %8.1f ns/puzzle (%.1fx)\n",
+                    vectorPipeline, boards / vectorPipeline);
+        } else {
+            System.out.println("Pipeline, batch vector: skipped (Vector API not enabled)");
+        }
+
+        // Mask computation only, on a batch already in layout
+        CandidateBatch batch = new CandidateBatch(grids);
+        double scalar = time(() -> runScalar(batch), puzzles);
+        System.out.printf("Kernel, scalar:         %8.1f ns/puzzle\n", scalar);
+        if (vector) {
+            double vectorKernel = time(() -> runVector(batch), puzzles);
+            System.out.printf("Kernel, vector:         %8.1f ns/puzzle (%.1fx over scalar)\n",
+                    vectorKernel, scalar / vectorKernel);
+        } else {
+            System.out.println("Kernel, vector:         skipped (Vector API not enabled)");
+        }
+    }
+
+    /**
+     * Build one SudokuBoard per grid, as SudokuGame does.
+     * @param grids The puzzles.
+     */
+    private static void runBoards(int[][][] grids) {
+        for (int[][] grid : grids) {
+            sink += new SudokuBoard(grid).getFilled();
+        }
+    }
+
+    /**
+     * Build boards through CandidateBatch: layout, masks, then boards.
+     * @param grids The puzzles.
+     * @param vector true to use compute(), false for computeScalar().
+     */
+    private static void runBatch(int[][][] grids, boolean vector) {
+        CandidateBatch batch = new CandidateBatch(grids);
+        if (vector) {
+            batch.compute();
+        } else {
+            batch.computeScalar();
+        }
+        for (SudokuBoard board : batch.toBoards()) {
+            sink += board.getFilled();
+        }
+    }
+
+    /**
+     * Compute candidates with CandidateBatch's scalar loops.
+     * @param batch The puzzles, already in struct-of-arrays layout.
+     */
+    private static void runScalar(CandidateBatch batch) {
+        batch.computeScalar();
+        sink += batch.getCandidates(0, 0, 0);
+    }
+
+    /**
+     * Compute candidates with the Vector API.
+     * @param batch The puzzles, already in struct-of-arrays layout.
+     */
+    private static void runVector(CandidateBatch batch) {
+        batch.compute();
+        sink += batch.getCandidates(0, 0, 0);
+    }
+
+    /**
+     * Warm up, then average enough timed runs to cover RUN_PUZZLES.
+     * @param task The code to time.
+     * @param puzzles Number of puzzles handled per run.
+     * @return Average nanoseconds per puzzle.
+     */
+    private static double time(Runnable task, int puzzles) {
+        for (int i = 0; i < WARMUP_PUZZLES / puzzles + 1; i++) {
+            task.run();
+        }
+        int runs = RUN_PUZZLES / puzzles + 1;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            task.run();
+        }
+        return (double) (System.nanoTime() - start) / runs / puzzles;
+    }
+
+    /**
+     * Verify the batch paths give the same possible solutions as Square.
+     * @param grids The puzzles.
+     * @return true if every square matches, false otherwise.
+     */
+    private static boolean checkResults(int[][][] grids) {
+        CandidateBatch scalar = new CandidateBatch(grids);
+        scalar.computeScalar();
+        CandidateBatch batch = new CandidateBatch(grids);
+        batch.compute();
+        for (int puzzle = 0; puzzle < grids.length; puzzle++) {
+            for (int row = 0; row <= 8; row++) {
+                for (int col = 0; col <= 8; col++) {
+                    Square square = new Square(grids[puzzle], row, col);
+                    if (!square.getPossible().equals(scalar.getPossible(puzzle, row, col))
+                            || !square.getPossible().equals(batch.getPossible(puzzle, row, col))) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Make puzzles with a few values outside 1-9, which Square and
+     * CandidateBatch should both ignore.
+     * @param count Number of puzzles.
+     * @param random The random number source.
+     * @return The puzzles.
+     */
+    private static int[][][] makeOutOfRangeGrids(int count, Random random) {
+        int[][][] grids = makeGrids(count, random);
+        for (int[][] grid : grids) {
+            for (int i = 0; i < 3; i++) {
+                grid[random.nextInt(9)][random.nextInt(9)] = OUT_OF_RANGE[random.nextInt(OUT_OF_RANGE.length)];
+            }
+        }
+        return grids;
+    }
+
+    /**
+     * Make valid puzzles by relabeling the digits of a solved grid
+     * and blanking random squares.
+     * @param count Number of puzzles.
+     * @param random The random number source.
+     * @return The puzzles.
+     */
+    private static int[][][] makeGrids(int count, Random random) {
+        int[][][] grids = new int[count][9][9];
+        for (int[][] grid : grids) {
+            // Shuffle digits 1-9
+            int[] digits = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+            for (int i = 8; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int temp = digits[i];
+                digits[i] = digits[j];
+                digits[j] = temp;
+            }
+            for (int row = 0; row <= 8; row++) {
+                for (int col = 0; col <= 8; col++) {
+                    grid[row][col] = digits[(row * 3 + row / 3 + col) % 9];
+                }
+            }
+            for (int i = 0; i < BLANKS; i++) {
+                grid[random.nextInt(9)][random.nextInt(9)] = 0;
+            }
+        }
+        return grids;
+    }
+}
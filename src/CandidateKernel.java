@@ -0,0 +1,15 @@
+/**
+ * A way of filling a CandidateBatch's occupancy and candidate masks.
+ * Lets CandidateBatch use VectorCandidates without depending on the
+ * jdk.incubator.vector module at compile time.
+ *
+ * @author pilgrim_tabby
+ * @version 0.0.1
+ */
+interface CandidateKernel {
+    /**
+     * Fill the occupancy and candidate masks of a batch.
+     * @param batch The batch to compute.
+     */
+    void compute(CandidateBatch batch);
+}
@@ -42,6 +42,21 @@ public class Square implements Comparable<Square> {
         setPossible(grid);
     }
 
+    /**
+     * Construct a square from a batch, skipping the per-square scan of
+     * its neighbors. The batch's candidates are computed first if needed.
+     * @param batch The batch.
+     * @param puzzle The puzzle's index in the batch.
+     * @param row 0 to 8
+     * @param col 0 to 8
+     */
+    public Square(CandidateBatch batch, int puzzle, int row, int col) {
+        this.value = batch.getValue(puzzle, row, col);
+        this.row = row;
+        this.col = col;
+        this.possible = batch.getPossible(puzzle, row, col);
+    }
+
     /**
      * Construct a square from another square.
      * @param square The old square to copy.
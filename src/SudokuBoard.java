@@ -27,6 +27,22 @@ public class SudokuBoard implements Comparable<SudokuBoard> {
         setFilled();
     }
 
+    /**
+     * Construct new board from one puzzle of a batch. The batch's
+     * candidates are computed first if needed.
+     * @param batch The batch.
+     * @param puzzle The puzzle's index in the batch.
+     */
+    public SudokuBoard(CandidateBatch batch, int puzzle) {
+        for (int row = 0; row <= 8; row++) {
+            for (int col = 0; col <= 8; col++) {
+                this.grid[row][col] = new Square(batch, puzzle, row, col);
+            }
+        }
+
+        setFilled();
+    }
+
     /**
      * Construct new board from old board by deep copying its squares
      * @param board The old board